@@ -0,0 +1,63 @@
+#!/usr/bin/env bash
+# Compares time-to-first-reconcile and steady-state RSS of the JVM and the native build against the cluster
+# of the current kubectl context, which needs the Foo CRD installed and no other controller running.
+# Linux only, as RSS is read from /proc. Usage: native/benchmark.sh [steady-state seconds]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+STEADY_SECONDS=${1:-120}
+NAMESPACE=${NAMESPACE:-default}
+NATIVE=build/native/nativeCompile/controller
+
+# Always rebuild: a binary left over from pgo-train.sh is instrumented and would skew the numbers.
+# Gradle's up-to-date checks keep this cheap when nothing changed.
+./gradlew bootJar nativeCompile
+JAR=$(ls build/libs/controller-*-SNAPSHOT.jar | grep -v plain | head -1)
+PGO_PROFILES=$(cd native && ls *.iprof 2>/dev/null | paste -sd, - || true)
+if [[ -n "$PGO_PROFILES" ]]; then
+  NATIVE_BUILD="native (PGO with $PGO_PROFILES)"
+else
+  NATIVE_BUILD="native (without PGO)"
+fi
+
+kubectl apply -f - <<FOO
+apiVersion: spring.io/v1
+kind: Foo
+metadata:
+  name: benchmark-foo
+  namespace: $NAMESPACE
+spec:
+  nickname: Benchmark
+FOO
+# The Deployment has no owner reference to the Foo, so it is deleted explicitly
+trap 'kubectl delete foo,deployment benchmark-foo -n "$NAMESPACE" --ignore-not-found --wait=false >/dev/null' EXIT
+
+now_ms() {
+  echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# Prints "<time to first reconcile in ms> <steady-state RSS in KiB>" for the given command
+measure() {
+  kubectl delete deployment benchmark-foo -n "$NAMESPACE" --ignore-not-found --wait=true >/dev/null
+  local start
+  start=$(now_ms)
+  "$@" >/dev/null 2>&1 &
+  local pid=$!
+  until kubectl get deployment benchmark-foo -n "$NAMESPACE" >/dev/null 2>&1; do
+    sleep 0.05
+  done
+  local first_reconcile=$(( $(now_ms) - start ))
+  sleep "$STEADY_SECONDS"
+  local rss
+  rss=$(awk '/VmRSS/ { print $2 }' "/proc/$pid/status")
+  kill -TERM "$pid"
+  wait "$pid" || true
+  echo "$first_reconcile $rss"
+}
+
+read -r JVM_FIRST JVM_RSS < <(measure java -jar "$JAR")
+read -r NATIVE_FIRST NATIVE_RSS < <(measure "$NATIVE")
+
+printf '%-40s %26s %20s\n' build "time-to-first-reconcile" "steady-state RSS"
+printf '%-40s %23s ms %16s MiB\n' jvm "$JVM_FIRST" $(( JVM_RSS / 1024 ))
+printf '%-40s %23s ms %16s MiB\n' "$NATIVE_BUILD" "$NATIVE_FIRST" $(( NATIVE_RSS / 1024 ))
@@ -0,0 +1,74 @@
+#!/usr/bin/env bash
+# Records profile-guided optimization profiles for the native image by running an instrumented build
+# against the cluster of the current kubectl context, which needs the Foo CRD installed and no other
+# controller running. The workload runs twice, with per-Foo and with shared ConfigMaps, and each run
+# writes its own profile. Requires Oracle GraalVM. Usage: native/pgo-train.sh [number of Foos]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+FOO_COUNT=${1:-200}
+NAMESPACE=${NAMESPACE:-default}
+
+./gradlew nativeCompile -PpgoInstrument
+
+# Deployments and shared ConfigMaps have no owner reference to a Foo, so they are deleted explicitly
+cleanup() {
+  kubectl get foos -n "$NAMESPACE" -o name | grep '/pgo-foo-' \
+    | xargs -r kubectl delete -n "$NAMESPACE" --wait=false >/dev/null || true
+  kubectl get deployments -n "$NAMESPACE" -o name | grep '/pgo-foo-' \
+    | xargs -r kubectl delete -n "$NAMESPACE" --wait=false >/dev/null || true
+  kubectl delete configmaps -n "$NAMESPACE" -l spring.io/foo-content=shared --wait=false >/dev/null || true
+}
+
+# Runs the workload against the instrumented controller and writes the profile to the given file
+train() {
+  local profile=$1
+  local shared_config_maps=$2
+  rm -f "$profile"
+  FOO_CONFIG_MAPS_SHARED=$shared_config_maps build/native/nativeCompile/controller -XX:ProfilesDumpFile="$profile" &
+  CONTROLLER_PID=$!
+  trap 'kill $CONTROLLER_PID 2>/dev/null || true; cleanup' EXIT
+
+  # Every tenth nickname repeats, so shared ConfigMaps are reused as well as created, and every fifth
+  # Foo sets resources. Resyncs of unchanged Foos hit the render cache, the update below misses it.
+  for i in $(seq 1 "$FOO_COUNT"); do
+    cat <<FOO
+---
+apiVersion: spring.io/v1
+kind: Foo
+metadata:
+  name: pgo-foo-$i
+  namespace: $NAMESPACE
+spec:
+  nickname: Foo $((i % 10 == 0 ? 0 : i))
+  replicas: $((i % 3))
+FOO
+    if (( i % 5 == 0 )); then
+      cat <<RESOURCES
+  resources:
+    limits:
+      memory: 64Mi
+    requests:
+      cpu: 10m
+RESOURCES
+    fi
+  done | kubectl apply -f -
+
+  # Two resync periods of 30 seconds, then update every Foo once, then delete them while the controller
+  # still runs, so releasing ConfigMaps is part of the profile
+  sleep 70
+  kubectl get foos -n "$NAMESPACE" -o name | grep '/pgo-foo-' \
+    | xargs -I{} kubectl patch {} -n "$NAMESPACE" --type merge -p '{"spec":{"image":"nginx:stable"}}'
+  sleep 40
+  kubectl get foos -n "$NAMESPACE" -o name | grep '/pgo-foo-' | xargs -r kubectl delete -n "$NAMESPACE" --wait=false
+  sleep 20
+
+  kill -TERM $CONTROLLER_PID
+  wait $CONTROLLER_PID || true
+  trap - EXIT
+  cleanup
+}
+
+train native/default.iprof false
+train native/shared.iprof true
+echo "Wrote native/default.iprof and native/shared.iprof, rebuild with ./gradlew nativeCompile"
@@ -0,0 +1,38 @@
+package io.spring.controller;
+
+import okhttp3.HttpUrl;
+import java.util.List;
+
+/**
+ * Kubernetes API request as seen by the controller's instrumentation, derived from its HTTP method and URL.
+ */
+public record ApiCall(String verb, String resource, String namespace) {
+
+    /**
+     * Parses paths like {@code /api/v1/namespaces/{namespace}/configmaps/{name}} or
+     * {@code /apis/{group}/{version}/deployments}. Other paths are reported with the path as resource.
+     */
+    public static ApiCall of(String method, HttpUrl url) {
+        List<String> segments = url.pathSegments();
+        var start = segments.get(0).equals("api") ? 2 : segments.get(0).equals("apis") ? 3 : -1;
+        if (start == -1 || segments.size() <= start) {
+            return new ApiCall(method.toLowerCase(), url.encodedPath(), null);
+        }
+        var index = start;
+        String namespace = null;
+        if (segments.size() > index + 2 && segments.get(index).equals("namespaces")) {
+            namespace = segments.get(index + 1);
+            index += 2;
+        }
+        var named = segments.size() > index + 1;
+        var verb = switch (method) {
+            case "GET" -> "true".equals(url.queryParameter("watch")) ? "watch" : named ? "get" : "list";
+            case "POST" -> "create";
+            case "PUT" -> "update";
+            case "PATCH" -> "patch";
+            case "DELETE" -> named ? "delete" : "deletecollection";
+            default -> method.toLowerCase();
+        };
+        return new ApiCall(verb, segments.get(index), namespace);
+    }
+}
@@ -5,10 +5,17 @@ import io.kubernetes.client.extended.controller.builder.ControllerBuilder;
 import io.kubernetes.client.extended.controller.reconciler.Reconciler;
 import io.kubernetes.client.informer.SharedIndexInformer;
 import io.kubernetes.client.informer.SharedInformerFactory;
+import io.opentelemetry.api.OpenTelemetry;
+import io.spring.controller.jfr.RecordingWorkQueue;
+import io.spring.controller.tracing.FooTracing;
 import io.spring.controller.models.V1Foo;
 import io.spring.controller.models.V1FooList;
+import io.spring.controller.models.V1FooSpec;
+import io.spring.controller.models.V1FooSpecResources;
 import io.kubernetes.client.util.generic.GenericKubernetesApi;
 import io.kubernetes.client.openapi.ApiClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.boot.CommandLineRunner;
@@ -17,12 +24,13 @@ import io.kubernetes.client.openapi.apis.AppsV1Api;
 import io.kubernetes.client.openapi.apis.CoreV1Api;
 
 import java.time.Duration;
+import java.util.Objects;
 
 import io.kubernetes.client.openapi.models.*;
 import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
 
-@RegisterReflectionForBinding({ V1Foo.class, V1FooList.class })
+@RegisterReflectionForBinding({ V1Foo.class, V1FooList.class, V1FooSpec.class, V1FooSpecResources.class })
 @Configuration
 public class ControllerConfiguration {
 
@@ -48,23 +56,43 @@ public class ControllerConfiguration {
     }
 
 
-    @ImportRuntimeHints(FooReconciler.ResourceAccessHints.class)
+    @ImportRuntimeHints({ FooRenderer.ResourceAccessHints.class, FooRenderer.GsonAdapterHints.class })
+    @Bean
+    FooRenderer fooRenderer() {
+        return new FooRenderer();
+    }
+
+    @Bean
+    FooTracing fooTracing(ObjectProvider<OpenTelemetry> openTelemetry) {
+        return new FooTracing(openTelemetry.getIfAvailable(OpenTelemetry::noop));
+    }
+
     @Bean
     Reconciler reconciler(SharedIndexInformer<V1Foo> parentInformer,
                           CoreV1Api coreV1Api,
-                          AppsV1Api appsV1Api) {
-        return new FooReconciler(parentInformer, coreV1Api, appsV1Api);
+                          AppsV1Api appsV1Api,
+                          FooRenderer fooRenderer,
+                          FooTracing fooTracing,
+                          @Value("${foo.config-maps.shared:false}") boolean sharedConfigMaps) {
+        return new FooReconciler(parentInformer, coreV1Api, appsV1Api, fooRenderer, fooTracing, sharedConfigMaps);
     }
 
     @Bean
     Controller controller(SharedInformerFactory sharedInformerFactory,
                           SharedIndexInformer<V1Foo> informer,
-                          Reconciler reconciler) {
+                          Reconciler reconciler,
+                          FooTracing fooTracing) {
         return ControllerBuilder
                 .defaultBuilder(sharedInformerFactory)
+                .withWorkQueue(new RecordingWorkQueue())
                 .watch(q -> ControllerBuilder
                         .controllerWatchBuilder(V1Foo.class, q)
                         .withResyncPeriod(Duration.ofSeconds(30))
+                        .withOnAddFilter(foo -> fooTracing.watchEvent("ADDED", foo))
+                        .withOnUpdateFilter((oldFoo, newFoo) -> Objects.equals(
+                                oldFoo.getMetadata().getResourceVersion(), newFoo.getMetadata().getResourceVersion())
+                                ? fooTracing.resync(newFoo) : fooTracing.watchEvent("MODIFIED", newFoo))
+                        .withOnDeleteFilter((foo, stateUnknown) -> fooTracing.watchEvent("DELETED", foo))
                         .build())
                 .withReconciler(reconciler)
                 .withReadyFunc(informer::hasSynced)
@@ -7,64 +7,154 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import io.kubernetes.client.informer.cache.Lister;
 import io.kubernetes.client.informer.SharedIndexInformer;
+import io.spring.controller.jfr.ReconcileEvent;
+import io.spring.controller.tracing.FooTracing;
 import io.spring.controller.models.V1Foo;
 import io.kubernetes.client.openapi.models.*;
+import java.util.List;
 import java.util.Map;
 import java.util.Collections;
+import java.util.TreeMap;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import io.kubernetes.client.openapi.ApiException;
 import io.kubernetes.client.openapi.apis.CoreV1Api;
 import java.time.Duration;
+import java.time.Instant;
 import io.kubernetes.client.openapi.apis.AppsV1Api;
-import io.kubernetes.client.util.Yaml;
-import org.springframework.core.io.ClassPathResource;
-import java.io.IOException;
-import org.springframework.util.FileCopyUtils;
-import java.io.InputStreamReader;
-import org.springframework.aot.hint.RuntimeHints;
-import org.springframework.aot.hint.RuntimeHintsRegistrar;
 
 public class FooReconciler implements Reconciler {
 
     private static final Logger log = LoggerFactory.getLogger(FooReconciler.class);
 
+    static final String SHARED_CONFIG_MAP_PREFIX = "foo-content-";
+    static final String SHARED_CONFIG_MAP_LABEL = "spring.io/foo-content";
+    static final String SHARED_CONFIG_MAP_CLAIMED_AT_ANNOTATION = "spring.io/foo-content-claimed-at";
+    static final String SHARED_CONFIG_MAP_INDEX = "sharedConfigMap";
+
     private final SharedIndexInformer<V1Foo> informer;
     private final CoreV1Api coreV1Api;
     private final AppsV1Api appsV1Api;
-    public FooReconciler(SharedIndexInformer<V1Foo> informer, CoreV1Api coreV1Api, AppsV1Api appsV1Api) {
+    private final FooRenderer renderer;
+    private final FooTracing tracing;
+    private final boolean sharedConfigMaps;
+
+    /**
+     * @param sharedConfigMaps if {@code true}, Foos with identical rendered content share one
+     *                         content-addressed ConfigMap per namespace instead of owning one each
+     */
+    public FooReconciler(SharedIndexInformer<V1Foo> informer, CoreV1Api coreV1Api, AppsV1Api appsV1Api,
+                         FooRenderer renderer, FooTracing tracing, boolean sharedConfigMaps) {
         this.appsV1Api = appsV1Api;
 
         this.coreV1Api = coreV1Api;
 
         this.informer = informer;
+
+        this.renderer = renderer;
+
+        this.tracing = tracing;
+
+        this.sharedConfigMaps = sharedConfigMaps;
+
+        if (sharedConfigMaps) {
+            informer.addIndexers(Map.of(SHARED_CONFIG_MAP_INDEX, this::sharedConfigMapIndexKeys));
+        }
     }
 
     @Override
     public Result reconcile(Request request) {
+        var event = new ReconcileEvent();
+        event.begin();
+        var span = tracing.startReconcile(request);
+        try (var scope = span.makeCurrent()) {
+            return reconcile(request, event);
+        } catch (RuntimeException e) {
+            event.outcome = "error";
+            tracing.failReconcile(span, e);
+            throw e;
+        } finally {
+            tracing.endReconcile(span, event.outcome);
+            if (event.shouldCommit()) {
+                event.key = request.getNamespace() + "/" + request.getName();
+                event.commit();
+            }
+        }
+    }
+
+    private Result reconcile(Request request, ReconcileEvent event) {
         var namespace = request.getNamespace();
         var name  = request.getName();
         var lister = new Lister<>(informer.getIndexer(), namespace);
-        var resource = lister.get(name);
+        var resource = tracing.inSpan("cache lookup", () -> lister.get(name));
         if (resource == null || resource.getMetadata().getDeletionTimestamp() != null) {
+            renderer.evict(namespace, name);
+            if (sharedConfigMaps) {
+                try {
+                    deleteUnusedSharedConfigMaps(namespace);
+                } catch (ApiException e) {
+                    log.error("Deleting unused shared ConfigMaps in namespace " + namespace + " failed", e);
+                    event.outcome = "release-failed";
+                    return new Result(true, Duration.ofSeconds(10));
+                }
+            }
+            event.outcome = "deleted";
             return new Result(false);
         }
 
-        var configMapContent = Map.of("index.html", "<h1> Hello, " + resource.getSpec().getNickname() + " </h1>");
-        var configMap = getConfigMap(name, resource, configMapContent);
+        V1Deployment existingDeployment;
+        try {
+            existingDeployment = readDeployment(name, namespace);
+        } catch (ApiException e) {
+            log.error("Reading Deployment for Foo " + namespace + "/" + name + " failed", e);
+            event.outcome = "deployment-failed";
+            return new Result(true, Duration.ofSeconds(10));
+        }
+        var previousConfigMapName = getMountedConfigMapName(existingDeployment);
+
+        var configMapContent = tracing.inSpan("render content", () -> renderer.renderConfigMapContent(resource.getSpec()));
+        String configMapName;
         try {
-            applyConfigMap(configMap);
+            if (sharedConfigMaps) {
+                configMapName = SHARED_CONFIG_MAP_PREFIX + contentHash(configMapContent);
+                claimSharedConfigMap(resource, configMapName, configMapContent, configMapName.equals(previousConfigMapName));
+            } else {
+                configMapName = name;
+                applyConfigMap(getConfigMap(name, resource, configMapContent));
+            }
         } catch (ApiException e) {
             log.error("Applying ConfigMap for Foo " + namespace + "/" + name + " failed", e);
+            event.outcome = "configmap-failed";
             return new Result(true, Duration.ofSeconds(10));
         }
 
         try {
-            var deployment = getDeployment(name, resource);
-            applyDeployment(deployment);
-        } catch (ApiException | IOException e) {
+            var deployment = tracing.inSpan("render deployment", () -> renderer.renderDeployment(resource, configMapName));
+            applyDeployment(deployment, existingDeployment);
+        } catch (ApiException e) {
             log.error("Applying Deployment for Foo " + namespace + "/" + name + " failed", e);
+            event.outcome = "deployment-failed";
             return new Result(true, Duration.ofSeconds(10));
         }
 
+        // Only now that the Deployment no longer mounts the previous ConfigMap, it may go away
+        if (sharedConfigMaps && previousConfigMapName != null && !previousConfigMapName.equals(configMapName)) {
+            try {
+                if (previousConfigMapName.equals(name)) {
+                    deleteOwnConfigMap(resource);
+                } else {
+                    deleteUnusedSharedConfigMaps(namespace);
+                }
+            } catch (ApiException e) {
+                log.error("Releasing ConfigMap " + previousConfigMapName + " of Foo " + namespace + "/" + name + " failed", e);
+                event.outcome = "release-failed";
+                return new Result(true, Duration.ofSeconds(10));
+            }
+        }
+
+        event.outcome = "applied";
         return new Result(false);
     }
 
@@ -85,6 +175,132 @@ public class FooReconciler implements Reconciler {
               .withName(owner.getMetadata().getName()).withUid(owner.getMetadata().getUid()).withController().build();
     }
 
+    /**
+     * Makes sure the content-addressed ConfigMap exists before the Foo's Deployment is pointed at it, and recreates it
+     * if it went missing while mounted. Its metadata stays a fixed size no matter how many Foos use it: the controller
+     * counts the users itself through the {@link #SHARED_CONFIG_MAP_INDEX} of the informer cache.
+     */
+    private void claimSharedConfigMap(V1Foo resource, String configMapName, Map<String, String> configMapContent,
+                                      boolean mounted) throws ApiException {
+        var namespace = resource.getMetadata().getNamespace();
+        var configMap = readConfigMap(configMapName, namespace);
+        if (configMap == null) {
+            try {
+                coreV1Api.createNamespacedConfigMap(namespace, new V1ConfigMapBuilder()
+                      .withApiVersion("v1")
+                      .withNewMetadata()
+                          .withName(configMapName)
+                          .withNamespace(namespace)
+                          .withLabels(Map.of(SHARED_CONFIG_MAP_LABEL, "shared"))
+                      .endMetadata()
+                      .withData(configMapContent)
+                      .withImmutable(true)
+                      .build(), "true", null, null, null);
+                return;
+            } catch (ApiException e) {
+                // 409: created by a concurrent reconcile of a Foo with the same content, so claim it like any other
+                if (e.getCode() != 409) {
+                    throw e;
+                }
+            }
+            configMap = readConfigMap(configMapName, namespace);
+            if (configMap == null) {
+                throw new ApiException(404, "ConfigMap " + namespace + "/" + configMapName + " was deleted while claiming it");
+            }
+        }
+        if (mounted) {
+            return;
+        }
+        // Changes the resourceVersion on every claim, so a concurrent deleteUnusedSharedConfigMaps that has not seen
+        // this Foo in the index yet fails its precondition instead of deleting the ConfigMap
+        configMap.getMetadata().putAnnotationsItem(SHARED_CONFIG_MAP_CLAIMED_AT_ANNOTATION, Instant.now().toString());
+        try {
+            coreV1Api.replaceNamespacedConfigMap(configMapName, namespace, configMap, null, null, null, null);
+        } catch (ApiException e) {
+            // 409: another claim changed the resourceVersion since we read it, which protects it just the same
+            if (e.getCode() != 409) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Deletes the shared ConfigMaps in the namespace that no Foo in the informer cache renders anymore.
+     */
+    private void deleteUnusedSharedConfigMaps(String namespace) throws ApiException {
+        var configMapList = coreV1Api.listNamespacedConfigMap(namespace, null, null, null, null,
+              SHARED_CONFIG_MAP_LABEL + "=shared", null, null, null, null, null, null);
+        for (var item : configMapList.getItems()) {
+            var metadata = item.getMetadata();
+            if (!informer.getIndexer().byIndex(SHARED_CONFIG_MAP_INDEX, namespace + "/" + metadata.getName()).isEmpty()) {
+                continue;
+            }
+            var deleteOptions = new V1DeleteOptions()
+                  .preconditions(new V1Preconditions().resourceVersion(metadata.getResourceVersion()));
+            try {
+                coreV1Api.deleteNamespacedConfigMap(metadata.getName(), namespace, null, null, null, null, null, deleteOptions);
+            } catch (ApiException e) {
+                // 409: claimed by a Foo in the meantime, so still in use. 404: already deleted
+                if (e.getCode() != 409 && e.getCode() != 404) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private List<String> sharedConfigMapIndexKeys(V1Foo foo) {
+        if (foo.getSpec() == null) {
+            return List.of();
+        }
+        var configMapName = SHARED_CONFIG_MAP_PREFIX + contentHash(renderer.renderConfigMapContent(foo.getSpec()));
+        return List.of(foo.getMetadata().getNamespace() + "/" + configMapName);
+    }
+
+    /**
+     * Removes the per-Foo ConfigMap left over from before shared ConfigMaps were enabled.
+     */
+    private void deleteOwnConfigMap(V1Foo resource) throws ApiException {
+        var name = resource.getMetadata().getName();
+        var namespace = resource.getMetadata().getNamespace();
+        var configMap = readConfigMap(name, namespace);
+        if (configMap != null && isOwnedBy(configMap, resource)) {
+            coreV1Api.deleteNamespacedConfigMap(name, namespace, null, null, null, null, null, null);
+        }
+    }
+
+    private V1ConfigMap readConfigMap(String name, String namespace) throws ApiException {
+        try {
+            return coreV1Api.readNamespacedConfigMap(name, namespace, null);
+        } catch (ApiException e) {
+            if (e.getCode() == 404) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isOwnedBy(V1ConfigMap configMap, V1Foo owner) {
+        var ownerReferences = configMap.getMetadata().getOwnerReferences();
+        return ownerReferences != null && ownerReferences.stream()
+              .anyMatch(ownerReference -> owner.getMetadata().getUid().equals(ownerReference.getUid()));
+    }
+
+    static String contentHash(Map<String, String> configMapContent) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            new TreeMap<>(configMapContent).forEach((key, value) -> {
+                digest.update(key.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(value.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            });
+            // 160 bits keep collisions out of reach while leaving room in the 253 character name limit
+            return HexFormat.of().formatHex(digest.digest(), 0, 20);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     private void applyConfigMap(V1ConfigMap configMap) throws ApiException {
         var namespace = configMap.getMetadata().getNamespace();
         if (configMapExists(configMap)) {
@@ -99,33 +315,35 @@ public class FooReconciler implements Reconciler {
         return configMapList.getItems().stream().anyMatch(item -> item.getMetadata().getName().equals(configMap.getMetadata().getName()));
     }
 
-    private V1Deployment getDeployment(String name, V1Foo resource) throws IOException {
-        var deploymentYaml = FileCopyUtils.copyToString(new InputStreamReader(new ClassPathResource(
-              "deployment-template.yaml").getInputStream()));
-        deploymentYaml = deploymentYaml.replaceAll("NAMESPACE", resource.getMetadata().getNamespace())
-                  .replaceAll("NAME", name);
-        return Yaml.loadAs(deploymentYaml, V1Deployment.class);
+    private V1Deployment readDeployment(String name, String namespace) throws ApiException {
+        try {
+            return appsV1Api.readNamespacedDeployment(name, namespace, null);
+        } catch (ApiException e) {
+            if (e.getCode() == 404) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    private static String getMountedConfigMapName(V1Deployment deployment) {
+        if (deployment == null || deployment.getSpec() == null || deployment.getSpec().getTemplate().getSpec() == null
+              || deployment.getSpec().getTemplate().getSpec().getVolumes() == null) {
+            return null;
+        }
+        return deployment.getSpec().getTemplate().getSpec().getVolumes().stream()
+              .filter(volume -> volume.getConfigMap() != null)
+              .map(volume -> volume.getConfigMap().getName())
+              .findFirst()
+              .orElse(null);
     }
 
-    private void applyDeployment(V1Deployment deployment) throws ApiException {
+    private void applyDeployment(V1Deployment deployment, V1Deployment existingDeployment) throws ApiException {
         var namespace = deployment.getMetadata().getNamespace();
-        if (deploymentExists(deployment)) {
+        if (existingDeployment != null) {
             appsV1Api.replaceNamespacedDeployment(deployment.getMetadata().getName(), namespace, deployment, null, null, null, null);
         } else {
             appsV1Api.createNamespacedDeployment(namespace, deployment, "true", null, null, null);
         }
     }
-
-    private boolean deploymentExists(V1Deployment deployment) throws ApiException {
-        var deploymentList = appsV1Api.listNamespacedDeployment(deployment.getMetadata().getNamespace(), null, null, null, null, null, null, null, null, null, null, null);
-        return deploymentList.getItems().stream().anyMatch(item -> item.getMetadata().getName().equals(deployment.getMetadata().getName()));
-    }
-
-    static class ResourceAccessHints implements RuntimeHintsRegistrar {
-
-        @Override
-        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
-            hints.resources().registerPattern("deployment-template.yaml");
-        }
-    }
 }
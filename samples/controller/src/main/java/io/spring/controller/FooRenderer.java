@@ -0,0 +1,145 @@
+package io.spring.controller;
+
+import io.kubernetes.client.custom.IntOrString;
+import io.kubernetes.client.custom.Quantity;
+import io.kubernetes.client.openapi.models.V1Deployment;
+import io.kubernetes.client.openapi.models.V1ResourceRequirements;
+import io.kubernetes.client.util.Yaml;
+import io.spring.controller.jfr.RenderEvent;
+import io.spring.controller.models.V1Foo;
+import io.spring.controller.models.V1FooSpec;
+import io.spring.controller.models.V1FooSpecResources;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.FileCopyUtils;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Renders the resources owned by a Foo from templates that are compiled once. The last Deployment rendered for each
+ * Foo is kept until its spec or ConfigMap changes, so resyncs of unchanged Foos skip parsing the template.
+ */
+public class FooRenderer {
+
+    static final String DEPLOYMENT_TEMPLATE = "deployment-template.yaml";
+
+    private final Template deploymentTemplate;
+    private final Template contentTemplate = Template.compile("<h1> Hello, ${nickname} </h1>", "nickname");
+    private final Map<String, RenderedDeployment> renderedDeployments = new ConcurrentHashMap<>();
+
+    public FooRenderer() {
+        try {
+            var deploymentYaml = FileCopyUtils.copyToString(new InputStreamReader(new ClassPathResource(
+                  DEPLOYMENT_TEMPLATE).getInputStream()));
+            this.deploymentTemplate = Template.compile(deploymentYaml, "name", "namespace", "configMap");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Reading " + DEPLOYMENT_TEMPLATE + " failed", e);
+        }
+    }
+
+    public Map<String, String> renderConfigMapContent(V1FooSpec spec) {
+        if (spec.getContent() != null) {
+            return Map.of("index.html", spec.getContent());
+        }
+        var event = new RenderEvent();
+        event.begin();
+        var content = contentTemplate.render(String.valueOf(spec.getNickname()));
+        event.template = "index.html";
+        event.commit();
+        return Map.of("index.html", content);
+    }
+
+    /**
+     * Returns the Deployment for the Foo. It may be the same instance as for an earlier call, so callers must not
+     * modify it.
+     */
+    public V1Deployment renderDeployment(V1Foo resource, String configMapName) {
+        var event = new RenderEvent();
+        event.begin();
+        var metadata = resource.getMetadata();
+        var key = metadata.getNamespace() + "/" + metadata.getName();
+        var spec = resource.getSpec();
+        var rendered = renderedDeployments.get(key);
+        event.cacheHit = rendered != null && rendered.spec().equals(spec) && rendered.configMapName().equals(configMapName);
+        if (!event.cacheHit) {
+            rendered = new RenderedDeployment(spec, configMapName, render(resource, configMapName));
+            renderedDeployments.put(key, rendered);
+        }
+        event.template = DEPLOYMENT_TEMPLATE;
+        event.commit();
+        return rendered.deployment();
+    }
+
+    /**
+     * Drops what was cached for a Foo that no longer exists.
+     */
+    public void evict(String namespace, String name) {
+        renderedDeployments.remove(namespace + "/" + name);
+    }
+
+    private V1Deployment render(V1Foo resource, String configMapName) {
+        var metadata = resource.getMetadata();
+        var deployment = Yaml.loadAs(deploymentTemplate.render(metadata.getName(), metadata.getNamespace(), configMapName),
+              V1Deployment.class);
+        var spec = resource.getSpec();
+        if (spec.getReplicas() != null) {
+            deployment.getSpec().setReplicas(spec.getReplicas());
+        }
+        var container = deployment.getSpec().getTemplate().getSpec().getContainers().get(0);
+        if (spec.getImage() != null) {
+            container.setImage(spec.getImage());
+        }
+        container.setResources(toResourceRequirements(spec.getResources()));
+        return deployment;
+    }
+
+    private static V1ResourceRequirements toResourceRequirements(V1FooSpecResources resources) {
+        if (resources == null) {
+            return null;
+        }
+        return new V1ResourceRequirements()
+              .limits(toQuantities(resources.getLimits()))
+              .requests(toQuantities(resources.getRequests()));
+    }
+
+    private static Map<String, Quantity> toQuantities(Map<String, IntOrString> values) {
+        if (values == null) {
+            return null;
+        }
+        return values.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, entry -> Quantity.fromString(
+              entry.getValue().isInteger() ? entry.getValue().getIntValue().toString() : entry.getValue().getStrValue()),
+              (first, second) -> first, LinkedHashMap::new));
+    }
+
+    private record RenderedDeployment(V1FooSpec spec, String configMapName, V1Deployment deployment) {
+    }
+
+    static class ResourceAccessHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.resources().registerPattern(DEPLOYMENT_TEMPLATE);
+        }
+    }
+
+    /**
+     * Gson creates the {@code @JsonAdapter} of the int-or-string spec values and of the rendered quantities
+     * reflectively.
+     */
+    static class GsonAdapterHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.reflection()
+                  .registerType(IntOrString.IntOrStringAdapter.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                  .registerType(Quantity.QuantityAdapter.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+    }
+}
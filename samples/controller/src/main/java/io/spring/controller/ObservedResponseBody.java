@@ -0,0 +1,76 @@
+package io.spring.controller;
+
+import okhttp3.MediaType;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import java.io.IOException;
+import java.util.function.LongConsumer;
+
+/**
+ * Response body that reports the bytes read from it and its closing, so instrumentation of an API call can cover
+ * reading the body and, for watches, the whole watch.
+ */
+public final class ObservedResponseBody extends ResponseBody {
+
+    private final ResponseBody delegate;
+    private final BufferedSource source;
+
+    private ObservedResponseBody(ResponseBody delegate, LongConsumer onRead, Runnable onClose) {
+        this.delegate = delegate;
+        this.source = Okio.buffer(new ForwardingSource(delegate.source()) {
+
+            private boolean closed;
+
+            @Override
+            public long read(Buffer sink, long byteCount) throws IOException {
+                var read = super.read(sink, byteCount);
+                if (read != -1) {
+                    onRead.accept(read);
+                }
+                return read;
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    if (!closed) {
+                        closed = true;
+                        onClose.run();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the response with its body observed. {@code onClose} runs exactly once, right away if there is no body.
+     */
+    public static Response observe(Response response, LongConsumer onRead, Runnable onClose) {
+        if (response.body() == null) {
+            onClose.run();
+            return response;
+        }
+        return response.newBuilder().body(new ObservedResponseBody(response.body(), onRead, onClose)).build();
+    }
+
+    @Override
+    public MediaType contentType() {
+        return delegate.contentType();
+    }
+
+    @Override
+    public long contentLength() {
+        return delegate.contentLength();
+    }
+
+    @Override
+    public BufferedSource source() {
+        return source;
+    }
+}
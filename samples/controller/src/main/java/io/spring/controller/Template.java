@@ -0,0 +1,61 @@
+package io.spring.controller;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A text template with {@code ${variable}} placeholders. It is compiled once into its literal segments and
+ * the variables between them, so rendering is a single pass into an exactly sized buffer.
+ */
+final class Template {
+
+    private final String[] literals;
+    private final int[] variableIndexes;
+    private final int literalsLength;
+
+    private Template(String[] literals, int[] variableIndexes) {
+        this.literals = literals;
+        this.variableIndexes = variableIndexes;
+        this.literalsLength = Arrays.stream(literals).mapToInt(String::length).sum();
+    }
+
+    /**
+     * @param variables names of the placeholders, in the order their values are passed to {@link #render}
+     */
+    static Template compile(String source, String... variables) {
+        var variableNames = List.of(variables);
+        var literals = new ArrayList<String>();
+        var variableIndexes = new ArrayList<Integer>();
+        var position = 0;
+        int start;
+        while ((start = source.indexOf("${", position)) != -1) {
+            var end = source.indexOf('}', start + 2);
+            if (end == -1) {
+                throw new IllegalArgumentException("Unterminated placeholder at index " + start);
+            }
+            var variable = source.substring(start + 2, end);
+            var index = variableNames.indexOf(variable);
+            if (index == -1) {
+                throw new IllegalArgumentException("Unknown placeholder ${" + variable + "}");
+            }
+            literals.add(source.substring(position, start));
+            variableIndexes.add(index);
+            position = end + 1;
+        }
+        literals.add(source.substring(position));
+        return new Template(literals.toArray(String[]::new), variableIndexes.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    String render(String... values) {
+        var length = literalsLength;
+        for (var index : variableIndexes) {
+            length += values[index].length();
+        }
+        var result = new StringBuilder(length);
+        for (var i = 0; i < variableIndexes.length; i++) {
+            result.append(literals[i]).append(values[variableIndexes[i]]);
+        }
+        return result.append(literals[literals.length - 1]).toString();
+    }
+}
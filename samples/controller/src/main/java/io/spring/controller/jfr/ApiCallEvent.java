@@ -0,0 +1,40 @@
+package io.spring.controller.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("io.spring.controller.ApiCall")
+@Label("Kubernetes API Call")
+@Category("Foo Controller")
+@Description("A request to the Kubernetes API server, until its response body is closed. For watches, this is the whole watch")
+@StackTrace(false)
+public class ApiCallEvent extends Event {
+
+    @Label("Verb")
+    public String verb;
+
+    @Label("Resource")
+    public String resource;
+
+    @Label("Namespace")
+    public String namespace;
+
+    @Label("Status")
+    @Description("HTTP status code, 0 if no response was received")
+    public int status;
+
+    @Label("Request Bytes")
+    @Description("Size of the request body, -1 if unknown")
+    @DataAmount
+    public long requestBytes;
+
+    @Label("Response Bytes")
+    @Description("Bytes of the response body read by the client")
+    @DataAmount
+    public long responseBytes;
+}
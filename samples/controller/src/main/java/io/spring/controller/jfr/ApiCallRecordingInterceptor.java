@@ -0,0 +1,39 @@
+package io.spring.controller.jfr;
+
+import io.spring.controller.ApiCall;
+import io.spring.controller.ObservedResponseBody;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import java.io.IOException;
+
+/**
+ * Records an {@link ApiCallEvent} for every request sent through the Kubernetes {@code ApiClient}. The event is
+ * committed when the response body is closed, so it covers reading the body and, for watches, the whole watch.
+ */
+public class ApiCallRecordingInterceptor implements Interceptor {
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        var request = chain.request();
+        var event = new ApiCallEvent();
+        if (!event.isEnabled()) {
+            return chain.proceed(request);
+        }
+
+        event.begin();
+        var apiCall = ApiCall.of(request.method(), request.url());
+        event.verb = apiCall.verb();
+        event.resource = apiCall.resource();
+        event.namespace = apiCall.namespace();
+        event.requestBytes = request.body() != null ? request.body().contentLength() : 0;
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException | RuntimeException e) {
+            event.commit();
+            throw e;
+        }
+        event.status = response.code();
+        return ObservedResponseBody.observe(response, read -> event.responseBytes += read, event::commit);
+    }
+}
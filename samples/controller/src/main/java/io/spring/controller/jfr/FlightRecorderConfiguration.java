@@ -0,0 +1,42 @@
+package io.spring.controller.jfr;
+
+import io.kubernetes.client.openapi.ApiClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * Starts a continuous flight recording when {@code foo.jfr.enabled} is set. Without a recording the controller's
+ * events are disabled, and emitting them costs little more than an allocation.
+ */
+@ConditionalOnProperty("foo.jfr.enabled")
+@Configuration
+public class FlightRecorderConfiguration {
+
+    @Bean(destroyMethod = "close")
+    FlightRecording flightRecording(@Value("${foo.jfr.dump-file:/tmp/foo-controller.jfr}") Path dumpFile,
+                                    @Value("${foo.jfr.dump-interval:5m}") Duration dumpInterval,
+                                    @Value("${foo.jfr.max-age:15m}") Duration maxAge) throws IOException, ParseException {
+        return new FlightRecording(dumpFile, dumpInterval, maxAge);
+    }
+
+    @Bean
+    static BeanPostProcessor apiCallRecordingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof ApiClient apiClient) {
+                    apiClient.setHttpClient(apiClient.getHttpClient().newBuilder()
+                          .addInterceptor(new ApiCallRecordingInterceptor()).build());
+                }
+                return bean;
+            }
+        };
+    }
+}
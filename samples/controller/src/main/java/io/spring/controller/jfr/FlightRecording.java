@@ -0,0 +1,68 @@
+package io.spring.controller.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Continuous JFR recording of the JDK's default event set plus the controller's events. The last {@code maxAge}
+ * of it is periodically dumped to a single file, replaced atomically so readers never see a partial dump.
+ */
+public class FlightRecording implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecording.class);
+
+    private final Recording recording;
+    private final Path dumpFile;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    public FlightRecording(Path dumpFile, Duration dumpInterval, Duration maxAge) throws IOException, ParseException {
+        this.dumpFile = dumpFile;
+        this.recording = new Recording(Configuration.getConfiguration("default"));
+        recording.setName("foo-controller");
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        for (var eventClass : List.of(ReconcileEvent.class, QueueWaitEvent.class, ApiCallEvent.class, RenderEvent.class)) {
+            recording.enable(eventClass).withThreshold(Duration.ZERO);
+        }
+
+        var parent = dumpFile.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        if (!Files.isWritable(parent)) {
+            recording.close();
+            scheduler.shutdownNow();
+            throw new IllegalStateException("Cannot dump flight recordings to " + dumpFile.toAbsolutePath()
+                  + ", " + parent + " is not writable");
+        }
+        recording.start();
+        scheduler.scheduleAtFixedRate(this::dump, dumpInterval.toMillis(), dumpInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void dump() {
+        try {
+            var tempFile = dumpFile.resolveSibling(dumpFile.getFileName() + ".tmp");
+            recording.dump(tempFile);
+            Files.move(tempFile, dumpFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Dumping flight recording to " + dumpFile + " failed", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        dump();
+        recording.close();
+    }
+}
@@ -0,0 +1,25 @@
+package io.spring.controller.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("io.spring.controller.QueueWait")
+@Label("Queue Wait")
+@Category("Foo Controller")
+@Description("Time a request spent in the work queue before a worker picked it up")
+@StackTrace(false)
+public class QueueWaitEvent extends Event {
+
+    @Label("Key")
+    @Description("Namespace and name of the Foo")
+    public String key;
+
+    @Label("Wait Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long waitTime;
+}
@@ -0,0 +1,23 @@
+package io.spring.controller.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("io.spring.controller.Reconcile")
+@Label("Reconcile")
+@Category("Foo Controller")
+@Description("A single FooReconciler.reconcile invocation")
+@StackTrace(false)
+public class ReconcileEvent extends Event {
+
+    @Label("Key")
+    @Description("Namespace and name of the Foo")
+    public String key;
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,73 @@
+package io.spring.controller.jfr;
+
+import io.kubernetes.client.extended.controller.reconciler.Request;
+import io.kubernetes.client.extended.workqueue.DefaultRateLimitingQueue;
+import io.kubernetes.client.extended.workqueue.ratelimiter.DefaultControllerRateLimiter;
+import io.kubernetes.client.extended.workqueue.ratelimiter.RateLimiter;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+/**
+ * Rate limiting work queue that records a {@link QueueWaitEvent} for each request handed to a worker. The wait
+ * starts when a request becomes ready, so rate limiting and requeue delays are not counted.
+ * <p>
+ * {@link io.kubernetes.client.extended.workqueue.DefaultDelayingQueue} moves due requests into the queue with
+ * {@code super.add}, which cannot be intercepted. So the ready time is stamped when a request is added:
+ * now, or now plus the delay for {@link #addAfter} and {@link #addRateLimited}.
+ */
+public class RecordingWorkQueue extends DefaultRateLimitingQueue<Request> {
+
+    private final RateLimiter<Request> rateLimiter;
+    private final Map<Request, Long> readyAt = new ConcurrentHashMap<>();
+
+    public RecordingWorkQueue() {
+        this(new DefaultControllerRateLimiter<>());
+    }
+
+    private RecordingWorkQueue(RateLimiter<Request> rateLimiter) {
+        super(Executors.newSingleThreadExecutor(), rateLimiter);
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public void add(Request request) {
+        stampReadyAt(request, Duration.ZERO);
+        super.add(request);
+    }
+
+    @Override
+    public void addAfter(Request request, Duration duration) {
+        stampReadyAt(request, duration);
+        super.addAfter(request, duration);
+    }
+
+    // The superclass passes the delay straight to its own addAfter, so ask the shared rate limiter here
+    @Override
+    public void addRateLimited(Request request) {
+        addAfter(request, rateLimiter.when(request));
+    }
+
+    @Override
+    public Request get() throws InterruptedException {
+        var request = super.get();
+        if (request == null) {
+            return null;
+        }
+        var since = readyAt.remove(request);
+        var event = new QueueWaitEvent();
+        if (since != null && event.shouldCommit()) {
+            event.key = request.getNamespace() + "/" + request.getName();
+            event.waitTime = Math.max(0, System.nanoTime() - since);
+            event.commit();
+        }
+        return request;
+    }
+
+    // The queue holds a request at most once, so the earliest ready time is when it became ready
+    private void stampReadyAt(Request request, Duration delay) {
+        var delayNanos = delay.isNegative() ? 0 : delay.toNanos();
+        readyAt.merge(request, System.nanoTime() + delayNanos, Math::min);
+    }
+}
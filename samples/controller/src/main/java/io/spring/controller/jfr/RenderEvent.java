@@ -0,0 +1,20 @@
+package io.spring.controller.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("io.spring.controller.Render")
+@Label("Render")
+@Category("Foo Controller")
+@StackTrace(false)
+public class RenderEvent extends Event {
+
+    @Label("Template")
+    public String template;
+
+    @Label("Cache Hit")
+    public boolean cacheHit;
+}
@@ -20,6 +20,7 @@
  import com.google.gson.annotations.SerializedName;
  import com.google.gson.stream.JsonReader;
  import com.google.gson.stream.JsonWriter;
+ import io.spring.controller.models.V1FooSpecResources;
  import io.swagger.annotations.ApiModel;
  import io.swagger.annotations.ApiModelProperty;
  import java.io.IOException;
@@ -33,6 +34,22 @@
    @SerializedName(SERIALIZED_NAME_NICKNAME)
    private String nickname;
  
+   public static final String SERIALIZED_NAME_CONTENT = "content";
+   @SerializedName(SERIALIZED_NAME_CONTENT)
+   private String content;
+ 
+   public static final String SERIALIZED_NAME_REPLICAS = "replicas";
+   @SerializedName(SERIALIZED_NAME_REPLICAS)
+   private Integer replicas;
+ 
+   public static final String SERIALIZED_NAME_IMAGE = "image";
+   @SerializedName(SERIALIZED_NAME_IMAGE)
+   private String image;
+ 
+   public static final String SERIALIZED_NAME_RESOURCES = "resources";
+   @SerializedName(SERIALIZED_NAME_RESOURCES)
+   private V1FooSpecResources resources;
+ 
  
    public V1FooSpec nickname(String nickname) {
      
@@ -57,6 +74,98 @@
    }
  
  
+   public V1FooSpec content(String content) {
+     
+     this.content = content;
+     return this;
+   }
+ 
+    /**
+    * HTML served as index.html. Defaults to a greeting for the nickname
+    * @return content
+   **/
+   @javax.annotation.Nullable
+   @ApiModelProperty(value = "HTML served as index.html. Defaults to a greeting for the nickname")
+ 
+   public String getContent() {
+     return content;
+   }
+ 
+ 
+   public void setContent(String content) {
+     this.content = content;
+   }
+ 
+ 
+   public V1FooSpec replicas(Integer replicas) {
+     
+     this.replicas = replicas;
+     return this;
+   }
+ 
+    /**
+    * Number of desired webserver pods. Defaults to 2
+    * @return replicas
+   **/
+   @javax.annotation.Nullable
+   @ApiModelProperty(value = "Number of desired webserver pods. Defaults to 2")
+ 
+   public Integer getReplicas() {
+     return replicas;
+   }
+ 
+ 
+   public void setReplicas(Integer replicas) {
+     this.replicas = replicas;
+   }
+ 
+ 
+   public V1FooSpec image(String image) {
+     
+     this.image = image;
+     return this;
+   }
+ 
+    /**
+    * Container image of the webserver. Defaults to nginx:latest
+    * @return image
+   **/
+   @javax.annotation.Nullable
+   @ApiModelProperty(value = "Container image of the webserver. Defaults to nginx:latest")
+ 
+   public String getImage() {
+     return image;
+   }
+ 
+ 
+   public void setImage(String image) {
+     this.image = image;
+   }
+ 
+ 
+   public V1FooSpec resources(V1FooSpecResources resources) {
+     
+     this.resources = resources;
+     return this;
+   }
+ 
+    /**
+    * Compute resources of the webserver container
+    * @return resources
+   **/
+   @javax.annotation.Nullable
+   @ApiModelProperty(value = "Compute resources of the webserver container")
+ 
+   public V1FooSpecResources getResources() {
+     return resources;
+   }
+ 
+ 
+   public void setResources(V1FooSpecResources resources) {
+     this.resources = resources;
+   }
+ 
+ 
    @Override
    public boolean equals(Object o) {
      if (this == o) {
@@ -66,12 +175,16 @@
        return false;
      }
      V1FooSpec v1FooSpec = (V1FooSpec) o;
-     return Objects.equals(this.nickname, v1FooSpec.nickname);
+     return Objects.equals(this.nickname, v1FooSpec.nickname) &&
+        Objects.equals(this.content, v1FooSpec.content) &&
+        Objects.equals(this.replicas, v1FooSpec.replicas) &&
+        Objects.equals(this.image, v1FooSpec.image) &&
+        Objects.equals(this.resources, v1FooSpec.resources);
    }
  
    @Override
    public int hashCode() {
-     return Objects.hash(nickname);
+     return Objects.hash(nickname, content, replicas, image, resources);
    }
  
  
@@ -80,6 +193,10 @@
      StringBuilder sb = new StringBuilder();
      sb.append("class V1FooSpec {\n");
      sb.append("    nickname: ").append(toIndentedString(nickname)).append("\n");
+     sb.append("    content: ").append(toIndentedString(content)).append("\n");
+     sb.append("    replicas: ").append(toIndentedString(replicas)).append("\n");
+     sb.append("    image: ").append(toIndentedString(image)).append("\n");
+     sb.append("    resources: ").append(toIndentedString(resources)).append("\n");
      sb.append("}");
      return sb.toString();
    }
@@ -97,4 +214,3 @@
  
  }
  
- 
\ No newline at end of file
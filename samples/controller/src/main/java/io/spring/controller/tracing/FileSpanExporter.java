@@ -0,0 +1,95 @@
+package io.spring.controller.tracing;
+
+import com.google.gson.Gson;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Appends finished spans to a local file, one JSON object per line, for tests and local analysis.
+ */
+public class FileSpanExporter implements SpanExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(FileSpanExporter.class);
+
+    private final Gson gson = new Gson();
+    private final Path file;
+    private final BufferedWriter writer;
+    private boolean shutdown;
+
+    public FileSpanExporter(Path file) throws IOException {
+        this.file = file;
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+              StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        if (shutdown) {
+            return CompletableResultCode.ofFailure();
+        }
+        try {
+            for (var span : spans) {
+                writer.write(gson.toJson(toMap(span)));
+                writer.newLine();
+            }
+            writer.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            log.warn("Writing spans to " + file + " failed", e);
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    private static Map<String, Object> toMap(SpanData span) {
+        var attributes = new LinkedHashMap<String, Object>();
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), value));
+        var links = span.getLinks().stream()
+              .map(link -> Map.of("traceId", link.getSpanContext().getTraceId(), "spanId", link.getSpanContext().getSpanId()))
+              .toList();
+
+        var result = new LinkedHashMap<String, Object>();
+        result.put("traceId", span.getTraceId());
+        result.put("spanId", span.getSpanId());
+        result.put("parentSpanId", span.getParentSpanId());
+        result.put("name", span.getName());
+        result.put("kind", span.getKind().name());
+        result.put("startEpochNanos", span.getStartEpochNanos());
+        result.put("endEpochNanos", span.getEndEpochNanos());
+        result.put("status", span.getStatus().getStatusCode().name());
+        result.put("attributes", attributes);
+        result.put("links", links);
+        return result;
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        if (shutdown) {
+            return CompletableResultCode.ofSuccess();
+        }
+        shutdown = true;
+        try {
+            writer.close();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            log.warn("Closing " + file + " failed", e);
+            return CompletableResultCode.ofFailure();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package io.spring.controller.tracing;
+
+import io.kubernetes.client.extended.controller.reconciler.Request;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.TracerProvider;
+import io.spring.controller.models.V1Foo;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Traces the path of a Foo through the controller. Each informer event gets a short span, and the reconcile it
+ * leads to starts a new trace linked to the spans of all events that were merged into it while queued. Resyncs of
+ * unchanged Foos get no span; their reconciles are marked with {@link #TRIGGER}, so they can be sampled separately.
+ */
+public class FooTracing {
+
+    public static final AttributeKey<String> TRIGGER = AttributeKey.stringKey("foo.trigger");
+    public static final String TRIGGER_WATCH = "watch";
+    public static final String TRIGGER_RESYNC = "resync";
+    public static final String TRIGGER_REQUEUE = "requeue";
+
+    private static final int MAX_LINKS = 32;
+
+    private final Tracer tracer;
+    private final boolean enabled;
+    private final Map<Request, PendingReconcile> pendingReconciles = new ConcurrentHashMap<>();
+
+    public FooTracing(OpenTelemetry openTelemetry) {
+        this.tracer = openTelemetry.getTracer("io.spring.controller");
+        this.enabled = openTelemetry.getTracerProvider() != TracerProvider.noop();
+    }
+
+    /**
+     * Records the informer event that is about to enqueue the Foo. Always returns {@code true}, so it can be used
+     * as a watch filter.
+     */
+    public boolean watchEvent(String type, V1Foo foo) {
+        if (!enabled) {
+            return true;
+        }
+        var metadata = foo.getMetadata();
+        var span = tracer.spanBuilder("watch " + type)
+              .setSpanKind(SpanKind.PRODUCER)
+              .setAttribute("k8s.namespace.name", metadata.getNamespace())
+              .setAttribute("foo.name", metadata.getName())
+              .setAttribute("foo.resource_version", metadata.getResourceVersion())
+              .startSpan();
+        span.end();
+        var spanContext = span.getSpanContext();
+        pendingReconciles.compute(new Request(metadata.getNamespace(), metadata.getName()), (request, pending) -> {
+            var links = pending != null ? pending.links() : new ArrayList<SpanContext>();
+            if (spanContext.isSampled() && links.size() < MAX_LINKS) {
+                links.add(spanContext);
+            }
+            return new PendingReconcile(TRIGGER_WATCH, links);
+        });
+        return true;
+    }
+
+    /**
+     * Records the informer resync that is about to enqueue the unchanged Foo, without a span. Always returns
+     * {@code true}, so it can be used as a watch filter.
+     */
+    public boolean resync(V1Foo foo) {
+        if (!enabled) {
+            return true;
+        }
+        var metadata = foo.getMetadata();
+        pendingReconciles.putIfAbsent(new Request(metadata.getNamespace(), metadata.getName()),
+              new PendingReconcile(TRIGGER_RESYNC, new ArrayList<>()));
+        return true;
+    }
+
+    public Span startReconcile(Request request) {
+        var spanBuilder = tracer.spanBuilder("reconcile")
+              .setNoParent()
+              .setSpanKind(SpanKind.CONSUMER)
+              .setAttribute("k8s.namespace.name", request.getNamespace())
+              .setAttribute("foo.name", request.getName());
+        var pending = pendingReconciles.remove(request);
+        if (pending != null) {
+            spanBuilder.setAttribute(TRIGGER, pending.trigger());
+            pending.links().forEach(spanBuilder::addLink);
+        } else {
+            spanBuilder.setAttribute(TRIGGER, TRIGGER_REQUEUE);
+        }
+        return spanBuilder.startSpan();
+    }
+
+    public void failReconcile(Span span, RuntimeException e) {
+        span.recordException(e);
+        span.setStatus(StatusCode.ERROR);
+    }
+
+    public void endReconcile(Span span, String outcome) {
+        span.setAttribute("foo.outcome", outcome);
+        if (outcome != null && outcome.endsWith("-failed")) {
+            span.setStatus(StatusCode.ERROR);
+        }
+        span.end();
+    }
+
+    /**
+     * Runs the supplier in a child span of the current span.
+     */
+    public <T> T inSpan(String name, Supplier<T> supplier) {
+        var span = tracer.spanBuilder(name).startSpan();
+        try (var scope = span.makeCurrent()) {
+            return supplier.get();
+        } finally {
+            span.end();
+        }
+    }
+
+    private record PendingReconcile(String trigger, List<SpanContext> links) {
+    }
+}
@@ -0,0 +1,39 @@
+package io.spring.controller.tracing;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+import java.util.List;
+
+/**
+ * Samples new traces by ratio. Reconciles linked to a sampled watch event are always sampled, so an event's trace
+ * does not end at the queue, and reconciles triggered by a resync are sampled at their own, usually lower, ratio.
+ */
+public class ReconcileSampler implements Sampler {
+
+    private final Sampler sampler;
+    private final Sampler resyncSampler;
+
+    public ReconcileSampler(double ratio, double resyncRatio) {
+        this.sampler = Sampler.traceIdRatioBased(ratio);
+        this.resyncSampler = Sampler.traceIdRatioBased(resyncRatio);
+    }
+
+    @Override
+    public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind,
+                                       Attributes attributes, List<LinkData> parentLinks) {
+        if (parentLinks.stream().anyMatch(link -> link.getSpanContext().isSampled())) {
+            return SamplingResult.recordAndSample();
+        }
+        var delegate = FooTracing.TRIGGER_RESYNC.equals(attributes.get(FooTracing.TRIGGER)) ? resyncSampler : sampler;
+        return delegate.shouldSample(parentContext, traceId, name, spanKind, attributes, parentLinks);
+    }
+
+    @Override
+    public String getDescription() {
+        return "ReconcileSampler{" + sampler.getDescription() + ", resync=" + resyncSampler.getDescription() + "}";
+    }
+}
@@ -0,0 +1,76 @@
+package io.spring.controller.tracing;
+
+import io.kubernetes.client.openapi.ApiClient;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.exporter.otlp.trace.OtlpGrpcSpanExporter;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Sets up OpenTelemetry tracing when {@code foo.tracing.enabled} is set. Spans are exported via OTLP, or with
+ * {@code foo.tracing.exporter=file} to a local file.
+ */
+@ConditionalOnProperty("foo.tracing.enabled")
+@Configuration
+public class TracingConfiguration {
+
+    @Bean(destroyMethod = "close")
+    OpenTelemetrySdk openTelemetry(SpanExporter spanExporter,
+                                   @Value("${foo.tracing.sampling-ratio:0.1}") double samplingRatio,
+                                   @Value("${foo.tracing.resync-sampling-ratio:0.01}") double resyncSamplingRatio) {
+        var resource = Resource.getDefault()
+              .merge(Resource.create(Attributes.of(AttributeKey.stringKey("service.name"), "foo-controller")));
+        var tracerProvider = SdkTracerProvider.builder()
+              .setResource(resource)
+              .setSampler(Sampler.parentBased(new ReconcileSampler(samplingRatio, resyncSamplingRatio)))
+              .addSpanProcessor(BatchSpanProcessor.builder(spanExporter).build())
+              .build();
+        return OpenTelemetrySdk.builder()
+              .setTracerProvider(tracerProvider)
+              .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
+              .build();
+    }
+
+    // The exporters are shut down together with the OpenTelemetrySdk
+    @ConditionalOnProperty(name = "foo.tracing.exporter", havingValue = "otlp", matchIfMissing = true)
+    @Bean(destroyMethod = "")
+    SpanExporter otlpSpanExporter(@Value("${foo.tracing.otlp-endpoint:http://localhost:4317}") String endpoint) {
+        return OtlpGrpcSpanExporter.builder().setEndpoint(endpoint).build();
+    }
+
+    @ConditionalOnProperty(name = "foo.tracing.exporter", havingValue = "file")
+    @Bean(destroyMethod = "")
+    SpanExporter fileSpanExporter(@Value("${foo.tracing.file:/tmp/foo-controller-spans.jsonl}") Path file) throws IOException {
+        return new FileSpanExporter(file);
+    }
+
+    @Bean
+    static BeanPostProcessor tracingPostProcessor(ObjectProvider<OpenTelemetry> openTelemetry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof ApiClient apiClient) {
+                    apiClient.setHttpClient(apiClient.getHttpClient().newBuilder()
+                          .addInterceptor(new TracingInterceptor(openTelemetry.getObject())).build());
+                }
+                return bean;
+            }
+        };
+    }
+}
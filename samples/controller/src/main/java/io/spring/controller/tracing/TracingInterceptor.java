@@ -0,0 +1,66 @@
+package io.spring.controller.tracing;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.spring.controller.ApiCall;
+import io.spring.controller.ObservedResponseBody;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import java.io.IOException;
+
+/**
+ * Traces Kubernetes API requests made within a span, e.g. from a reconcile, and propagates the trace context to the
+ * API server. The span ends when the response body is closed, so it covers reading the body. Requests outside of a
+ * trace, like the informers' lists and watches, are left alone.
+ */
+public class TracingInterceptor implements Interceptor {
+
+    private final Tracer tracer;
+    private final TextMapPropagator propagator;
+
+    public TracingInterceptor(OpenTelemetry openTelemetry) {
+        this.tracer = openTelemetry.getTracer("io.spring.controller");
+        this.propagator = openTelemetry.getPropagators().getTextMapPropagator();
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        var request = chain.request();
+        if (!Span.current().getSpanContext().isValid()) {
+            return chain.proceed(request);
+        }
+
+        var apiCall = ApiCall.of(request.method(), request.url());
+        var span = tracer.spanBuilder(apiCall.verb() + " " + apiCall.resource())
+              .setSpanKind(SpanKind.CLIENT)
+              .setAttribute("http.request.method", request.method())
+              .setAttribute("url.path", request.url().encodedPath())
+              .setAttribute("k8s.namespace.name", apiCall.namespace())
+              .startSpan();
+        Response response;
+        try (var scope = span.makeCurrent()) {
+            var requestBuilder = request.newBuilder();
+            propagator.inject(Context.current(), requestBuilder, (carrier, key, value) -> carrier.header(key, value));
+            response = chain.proceed(requestBuilder.build());
+        } catch (IOException | RuntimeException e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR);
+            span.end();
+            throw e;
+        }
+        span.setAttribute("http.response.status_code", response.code());
+        if (response.code() >= 400) {
+            span.setStatus(StatusCode.ERROR);
+        }
+        var responseBytes = new long[1];
+        return ObservedResponseBody.observe(response, read -> responseBytes[0] += read, () -> {
+            span.setAttribute("http.response.body.size", responseBytes[0]);
+            span.end();
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package io.spring.controller;
+
+import okhttp3.HttpUrl;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApiCallTest {
+
+	@Test
+	void namespacedCoreResource() {
+		assertThat(of("GET", "/api/v1/namespaces/default/configmaps/my-foo"))
+				.isEqualTo(new ApiCall("get", "configmaps", "default"));
+		assertThat(of("GET", "/api/v1/namespaces/default/configmaps"))
+				.isEqualTo(new ApiCall("list", "configmaps", "default"));
+		assertThat(of("POST", "/api/v1/namespaces/default/configmaps"))
+				.isEqualTo(new ApiCall("create", "configmaps", "default"));
+		assertThat(of("PUT", "/api/v1/namespaces/default/configmaps/my-foo"))
+				.isEqualTo(new ApiCall("update", "configmaps", "default"));
+		assertThat(of("DELETE", "/api/v1/namespaces/default/configmaps/my-foo"))
+				.isEqualTo(new ApiCall("delete", "configmaps", "default"));
+		assertThat(of("DELETE", "/api/v1/namespaces/default/configmaps"))
+				.isEqualTo(new ApiCall("deletecollection", "configmaps", "default"));
+	}
+
+	@Test
+	void namespacedGroupResource() {
+		assertThat(of("GET", "/apis/apps/v1/namespaces/default/deployments/my-foo"))
+				.isEqualTo(new ApiCall("get", "deployments", "default"));
+		assertThat(of("PATCH", "/apis/spring.io/v1/namespaces/default/foos/my-foo/status"))
+				.isEqualTo(new ApiCall("patch", "foos", "default"));
+	}
+
+	@Test
+	void clusterResource() {
+		assertThat(of("GET", "/api/v1/namespaces")).isEqualTo(new ApiCall("list", "namespaces", null));
+		assertThat(of("GET", "/api/v1/namespaces/default")).isEqualTo(new ApiCall("get", "namespaces", null));
+		assertThat(of("GET", "/apis/spring.io/v1/foos")).isEqualTo(new ApiCall("list", "foos", null));
+	}
+
+	@Test
+	void watch() {
+		assertThat(of("GET", "/apis/spring.io/v1/foos?watch=true&resourceVersion=42"))
+				.isEqualTo(new ApiCall("watch", "foos", null));
+		assertThat(of("GET", "/apis/spring.io/v1/namespaces/default/foos?watch=true"))
+				.isEqualTo(new ApiCall("watch", "foos", "default"));
+	}
+
+	@Test
+	void nonResourcePath() {
+		assertThat(of("GET", "/version")).isEqualTo(new ApiCall("get", "/version", null));
+		assertThat(of("GET", "/apis")).isEqualTo(new ApiCall("get", "/apis", null));
+		assertThat(of("GET", "/api/v1")).isEqualTo(new ApiCall("get", "/api/v1", null));
+	}
+
+	private static ApiCall of(String method, String path) {
+		return ApiCall.of(method, HttpUrl.get("https://kubernetes.test" + path));
+	}
+}
@@ -0,0 +1,189 @@
+package io.spring.controller;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.kubernetes.client.openapi.ApiClient;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory stand-in for the Kubernetes API server, plugged into an {@link ApiClient} as the last interceptor. It
+ * keeps namespaced objects by path, assigns resource versions and honours their preconditions, which is enough for
+ * the reconciler's get, list, create, replace and delete calls.
+ */
+public class FakeApiServer implements Interceptor {
+
+	private final Map<String, JsonObject> objects = new ConcurrentHashMap<>();
+
+	private final List<Request> requests = new CopyOnWriteArrayList<>();
+
+	private final Map<String, Runnable> beforeNext = new ConcurrentHashMap<>();
+
+	private final AtomicLong resourceVersion = new AtomicLong();
+
+	/**
+	 * Creates an {@link ApiClient} that sends its requests through the given interceptors to this server.
+	 */
+	public ApiClient apiClient(Interceptor... interceptors) {
+		var httpClient = new OkHttpClient.Builder();
+		for (var interceptor : interceptors) {
+			httpClient.addInterceptor(interceptor);
+		}
+		var apiClient = new ApiClient().setBasePath("http://kubernetes.test");
+		apiClient.setHttpClient(httpClient.addInterceptor(this).build());
+		return apiClient;
+	}
+
+	/**
+	 * Runs the action right before the next request with this method and path is handled, e.g. to simulate a
+	 * concurrent change.
+	 */
+	public void beforeNext(String method, String path, Runnable action) {
+		beforeNext.put(method + " " + path, action);
+	}
+
+	public List<Request> requests() {
+		return requests;
+	}
+
+	public JsonObject get(String path) {
+		return objects.get(path);
+	}
+
+	public void put(String path, JsonObject object) {
+		object.getAsJsonObject("metadata").addProperty("resourceVersion", nextResourceVersion());
+		objects.put(path, object);
+	}
+
+	public JsonObject remove(String path) {
+		return objects.remove(path);
+	}
+
+	@Override
+	public Response intercept(Chain chain) throws IOException {
+		var request = chain.request();
+		requests.add(request);
+		var path = request.url().encodedPath();
+		var action = beforeNext.remove(request.method() + " " + path);
+		if (action != null) {
+			action.run();
+		}
+		var apiCall = ApiCall.of(request.method(), request.url());
+		return switch (apiCall.verb()) {
+			case "get" -> objects.containsKey(path) ? respond(request, 200, objects.get(path)) : notFound(request);
+			case "list" -> list(request, path);
+			case "create" -> create(request, path);
+			case "update" -> replace(request, path);
+			case "delete" -> delete(request, path);
+			default -> respond(request, 405, status(405, "MethodNotAllowed"));
+		};
+	}
+
+	private Response list(Request request, String path) {
+		var labelSelector = request.url().queryParameter("labelSelector");
+		var items = new JsonArray();
+		objects.entrySet().stream()
+				.filter(entry -> entry.getKey().startsWith(path + "/"))
+				.filter(entry -> labelSelector == null || hasLabel(entry.getValue(), labelSelector))
+				.forEach(entry -> items.add(entry.getValue()));
+		var list = new JsonObject();
+		list.add("metadata", new JsonObject());
+		list.add("items", items);
+		return respond(request, 200, list);
+	}
+
+	private Response create(Request request, String path) throws IOException {
+		var object = body(request);
+		var objectPath = path + "/" + object.getAsJsonObject("metadata").get("name").getAsString();
+		if (objects.containsKey(objectPath)) {
+			return respond(request, 409, status(409, "AlreadyExists"));
+		}
+		put(objectPath, object);
+		return respond(request, 201, object);
+	}
+
+	private Response replace(Request request, String path) throws IOException {
+		var existing = objects.get(path);
+		if (existing == null) {
+			return notFound(request);
+		}
+		var object = body(request);
+		var expected = object.getAsJsonObject("metadata").get("resourceVersion");
+		if (expected != null && !expected.equals(existing.getAsJsonObject("metadata").get("resourceVersion"))) {
+			return respond(request, 409, status(409, "Conflict"));
+		}
+		// Like the API server, a replace that changes nothing keeps the resourceVersion
+		object.getAsJsonObject("metadata").add("resourceVersion", existing.getAsJsonObject("metadata").get("resourceVersion"));
+		if (!object.equals(existing)) {
+			put(path, object);
+		}
+		return respond(request, 200, objects.get(path));
+	}
+
+	private Response delete(Request request, String path) throws IOException {
+		var existing = objects.get(path);
+		if (existing == null) {
+			return notFound(request);
+		}
+		var options = request.body() != null && request.body().contentLength() != 0 ? body(request) : new JsonObject();
+		var preconditions = options.getAsJsonObject("preconditions");
+		if (preconditions != null && preconditions.has("resourceVersion") && !preconditions.get("resourceVersion")
+				.equals(existing.getAsJsonObject("metadata").get("resourceVersion"))) {
+			return respond(request, 409, status(409, "Conflict"));
+		}
+		objects.remove(path);
+		return respond(request, 200, status(200, "Success"));
+	}
+
+	private static boolean hasLabel(JsonObject object, String labelSelector) {
+		var label = labelSelector.split("=", 2);
+		var labels = object.getAsJsonObject("metadata").getAsJsonObject("labels");
+		return labels != null && labels.has(label[0]) && labels.get(label[0]).getAsString().equals(label[1]);
+	}
+
+	private String nextResourceVersion() {
+		return String.valueOf(resourceVersion.incrementAndGet());
+	}
+
+	private static JsonObject body(Request request) throws IOException {
+		var buffer = new Buffer();
+		request.body().writeTo(buffer);
+		return JsonParser.parseString(buffer.readUtf8()).getAsJsonObject();
+	}
+
+	private static JsonObject status(int code, String reason) {
+		var status = new JsonObject();
+		status.addProperty("kind", "Status");
+		status.addProperty("code", code);
+		status.addProperty("reason", reason);
+		return status;
+	}
+
+	private static Response notFound(Request request) {
+		return respond(request, 404, status(404, "NotFound"));
+	}
+
+	private static Response respond(Request request, int code, JsonObject body) {
+		return new Response.Builder()
+				.request(request)
+				.protocol(Protocol.HTTP_1_1)
+				.code(code)
+				.message("")
+				.body(ResponseBody.create(body.toString(), MediaType.get("application/json")))
+				.build();
+	}
+}
@@ -0,0 +1,239 @@
+package io.spring.controller;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.kubernetes.client.extended.controller.reconciler.Request;
+import io.kubernetes.client.extended.controller.reconciler.Result;
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.informer.cache.Cache;
+import io.kubernetes.client.openapi.apis.AppsV1Api;
+import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.opentelemetry.api.OpenTelemetry;
+import io.spring.controller.models.V1Foo;
+import io.spring.controller.models.V1FooSpec;
+import io.spring.controller.tracing.FooTracing;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FooReconcilerTest {
+
+	private static final String CONFIG_MAPS = "/api/v1/namespaces/default/configmaps";
+
+	private static final String DEPLOYMENTS = "/apis/apps/v1/namespaces/default/deployments";
+
+	private final FakeApiServer apiServer = new FakeApiServer();
+
+	private final Cache<V1Foo> cache = new Cache<>();
+
+	private final FooReconciler reconciler = sharedReconciler();
+
+	@Test
+	void contentHashIsIndependentOfMapOrder() {
+		var content = new LinkedHashMap<String, String>();
+		content.put("index.html", "<h1> Hello, Spring </h1>");
+		content.put("style.css", "h1 { color: green; }");
+		var reversed = new LinkedHashMap<String, String>();
+		reversed.put("style.css", "h1 { color: green; }");
+		reversed.put("index.html", "<h1> Hello, Spring </h1>");
+
+		assertThat(FooReconciler.contentHash(content)).isEqualTo(FooReconciler.contentHash(reversed));
+	}
+
+	@Test
+	void contentHashDiffersWhenKeyValueBoundaryShifts() {
+		assertThat(FooReconciler.contentHash(Map.of("ab", "c")))
+				.isNotEqualTo(FooReconciler.contentHash(Map.of("a", "bc")));
+	}
+
+	@Test
+	void contentHashFitsInConfigMapName() {
+		assertThat(FooReconciler.contentHash(Map.of("index.html", "<h1> Hello, Spring </h1>")))
+				.matches("[0-9a-f]{40}");
+	}
+
+	@Test
+	void foosWithSameContentShareOneConfigMap() {
+		reconcile(foo("first", "Spring"));
+		reconcile(foo("second", "Spring"));
+
+		var configMap = apiServer.get(sharedConfigMap("Spring"));
+		assertThat(configMap).isNotNull();
+		assertThat(configMap.get("immutable").getAsBoolean()).isTrue();
+		assertThat(configMap.getAsJsonObject("metadata").has("ownerReferences")).isFalse();
+		assertThat(apiServer.get(CONFIG_MAPS + "/first")).isNull();
+		assertThat(mountedConfigMap("first")).isEqualTo(mountedConfigMap("second")).isEqualTo(configMapName("Spring"));
+	}
+
+	@Test
+	void contentChangeReleasesConfigMapOnlyAfterLastDeploymentMovedOn() {
+		reconcile(foo("first", "Spring"));
+		reconcile(foo("second", "Spring"));
+
+		reconcile(foo("first", "Boot"));
+		assertThat(mountedConfigMap("first")).isEqualTo(configMapName("Boot"));
+		assertThat(apiServer.get(sharedConfigMap("Spring"))).isNotNull();
+
+		apiServer.requests().clear();
+		reconcile(foo("second", "Boot"));
+		assertThat(apiServer.get(sharedConfigMap("Spring"))).isNull();
+		assertThat(apiServer.requests()).extracting(request -> request.method() + " " + request.url().encodedPath())
+				.containsSubsequence("PUT " + DEPLOYMENTS + "/second", "DELETE " + sharedConfigMap("Spring"));
+	}
+
+	@Test
+	void deletingLastUserDeletesConfigMap() {
+		reconcile(foo("first", "Spring"));
+		reconcile(foo("second", "Spring"));
+
+		delete("first");
+		assertThat(apiServer.get(sharedConfigMap("Spring"))).isNotNull();
+		delete("second");
+		assertThat(apiServer.get(sharedConfigMap("Spring"))).isNull();
+	}
+
+	@Test
+	void recreatedFooRecreatesConfigMapItsDeploymentStillMounts() {
+		reconcile(foo("first", "Spring"));
+		delete("first");
+		assertThat(apiServer.get(DEPLOYMENTS + "/first")).isNotNull();
+		assertThat(apiServer.get(sharedConfigMap("Spring"))).isNull();
+
+		reconcile(foo("first", "Spring"));
+		assertThat(apiServer.get(sharedConfigMap("Spring"))).isNotNull();
+	}
+
+	@Test
+	void configMapDeletedOutOfBandIsRecreated() {
+		reconcile(foo("first", "Spring"));
+		apiServer.remove(sharedConfigMap("Spring"));
+
+		reconcile(foo("first", "Spring"));
+		assertThat(apiServer.get(sharedConfigMap("Spring"))).isNotNull();
+	}
+
+	@Test
+	void deploymentDriftIsReverted() {
+		reconcile(foo("first", "Spring"));
+		var deployment = apiServer.get(DEPLOYMENTS + "/first");
+		deployment.getAsJsonObject("spec").addProperty("replicas", 7);
+		apiServer.put(DEPLOYMENTS + "/first", deployment);
+
+		reconcile(foo("first", "Spring"));
+		assertThat(apiServer.get(DEPLOYMENTS + "/first").getAsJsonObject("spec").get("replicas").getAsInt()).isEqualTo(2);
+	}
+
+	@Test
+	void concurrentlyCreatedConfigMapIsClaimed() {
+		apiServer.beforeNext("POST", CONFIG_MAPS, () -> apiServer.put(sharedConfigMap("Spring"), configMap("Spring")));
+
+		reconcile(foo("first", "Spring"));
+		assertThat(apiServer.get(sharedConfigMap("Spring")).getAsJsonObject("metadata").getAsJsonObject("annotations")
+				.has(FooReconciler.SHARED_CONFIG_MAP_CLAIMED_AT_ANNOTATION)).isTrue();
+	}
+
+	@Test
+	void everyClaimChangesResourceVersion() {
+		reconcile(foo("first", "Spring"));
+		cache.add(foo("second", "Spring"));
+		// A Deployment without volumes gets in the way of the first attempt, so the claim is retried
+		apiServer.beforeNext("POST", DEPLOYMENTS, () -> apiServer.put(DEPLOYMENTS + "/second",
+				JsonParser.parseString("{\"metadata\":{\"name\":\"second\",\"namespace\":\"default\"}}").getAsJsonObject()));
+		assertThat(reconciler.reconcile(new Request("default", "second")).isRequeue()).isTrue();
+		var claimedVersion = resourceVersion(sharedConfigMap("Spring"));
+
+		reconcile(foo("second", "Spring"));
+		assertThat(resourceVersion(sharedConfigMap("Spring"))).isNotEqualTo(claimedVersion);
+	}
+
+	@Test
+	void deleteSkipsConfigMapClaimedConcurrently() {
+		reconcile(foo("first", "Spring"));
+		apiServer.beforeNext("DELETE", sharedConfigMap("Spring"),
+				() -> apiServer.put(sharedConfigMap("Spring"), apiServer.get(sharedConfigMap("Spring"))));
+
+		delete("first");
+		assertThat(apiServer.get(sharedConfigMap("Spring"))).isNotNull();
+	}
+
+	@Test
+	void deleteToleratesConfigMapDeletedConcurrently() {
+		reconcile(foo("first", "Spring"));
+		apiServer.beforeNext("DELETE", sharedConfigMap("Spring"), () -> apiServer.remove(sharedConfigMap("Spring")));
+
+		delete("first");
+		assertThat(apiServer.get(sharedConfigMap("Spring"))).isNull();
+	}
+
+	@SuppressWarnings("unchecked")
+	private FooReconciler sharedReconciler() {
+		SharedIndexInformer<V1Foo> informer = mock(SharedIndexInformer.class);
+		when(informer.getIndexer()).thenReturn(cache);
+		doAnswer(invocation -> {
+			cache.addIndexers(invocation.getArgument(0));
+			return null;
+		}).when(informer).addIndexers(any());
+		var apiClient = apiServer.apiClient();
+		return new FooReconciler(informer, new CoreV1Api(apiClient), new AppsV1Api(apiClient), new FooRenderer(),
+				new FooTracing(OpenTelemetry.noop()), true);
+	}
+
+	private void reconcile(V1Foo foo) {
+		cache.update(foo);
+		assertReconciled(reconciler.reconcile(new Request("default", foo.getMetadata().getName())));
+	}
+
+	private void delete(String name) {
+		cache.delete(cache.getByKey("default/" + name));
+		assertReconciled(reconciler.reconcile(new Request("default", name)));
+	}
+
+	private static void assertReconciled(Result result) {
+		assertThat(result.isRequeue()).isFalse();
+	}
+
+	private String mountedConfigMap(String name) {
+		return apiServer.get(DEPLOYMENTS + "/" + name).getAsJsonObject("spec").getAsJsonObject("template")
+				.getAsJsonObject("spec").getAsJsonArray("volumes").get(0).getAsJsonObject()
+				.getAsJsonObject("configMap").get("name").getAsString();
+	}
+
+	private String resourceVersion(String path) {
+		return apiServer.get(path).getAsJsonObject("metadata").get("resourceVersion").getAsString();
+	}
+
+	private static JsonObject configMap(String nickname) {
+		var metadata = new JsonObject();
+		metadata.addProperty("name", configMapName(nickname));
+		metadata.addProperty("namespace", "default");
+		var configMap = new JsonObject();
+		configMap.add("metadata", metadata);
+		return configMap;
+	}
+
+	private static String sharedConfigMap(String nickname) {
+		return CONFIG_MAPS + "/" + configMapName(nickname);
+	}
+
+	private static String configMapName(String nickname) {
+		return FooReconciler.SHARED_CONFIG_MAP_PREFIX
+				+ FooReconciler.contentHash(Map.of("index.html", "<h1> Hello, " + nickname + " </h1>"));
+	}
+
+	private static V1Foo foo(String name, String nickname) {
+		return new V1Foo()
+				.apiVersion("spring.io/v1")
+				.kind("Foo")
+				.metadata(new V1ObjectMeta().namespace("default").name(name).uid(name + "-uid"))
+				.spec(new V1FooSpec().nickname(nickname));
+	}
+
+}
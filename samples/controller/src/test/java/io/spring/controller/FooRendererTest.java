@@ -0,0 +1,91 @@
+package io.spring.controller;
+
+import io.kubernetes.client.custom.IntOrString;
+import io.kubernetes.client.custom.Quantity;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1ResourceRequirements;
+import io.spring.controller.models.V1Foo;
+import io.spring.controller.models.V1FooSpec;
+import io.spring.controller.models.V1FooSpecResources;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FooRendererTest {
+
+	private final FooRenderer renderer = new FooRenderer();
+
+	@Test
+	void renderDeploymentKeepsTemplateDefaults() {
+		var deployment = renderer.renderDeployment(foo(new V1FooSpec().nickname("Spring")), "my-foo");
+
+		assertThat(deployment.getMetadata().getName()).isEqualTo("my-foo");
+		assertThat(deployment.getMetadata().getNamespace()).isEqualTo("default");
+		assertThat(deployment.getSpec().getReplicas()).isEqualTo(2);
+		var podSpec = deployment.getSpec().getTemplate().getSpec();
+		assertThat(podSpec.getContainers().get(0).getImage()).isEqualTo("nginx:latest");
+		assertThat(podSpec.getContainers().get(0).getResources()).isNull();
+		assertThat(podSpec.getVolumes().get(0).getConfigMap().getName()).isEqualTo("my-foo");
+	}
+
+	@Test
+	void renderDeploymentAppliesSpec() {
+		var resources = new V1FooSpecResources()
+				.putLimitsItem("memory", new IntOrString("64Mi"))
+				.putRequestsItem("cpu", new IntOrString(1));
+		var spec = new V1FooSpec().nickname("Spring").replicas(5).image("nginx:stable").resources(resources);
+
+		var deployment = renderer.renderDeployment(foo(spec), "foo-content-abc");
+
+		assertThat(deployment.getSpec().getReplicas()).isEqualTo(5);
+		var podSpec = deployment.getSpec().getTemplate().getSpec();
+		var container = podSpec.getContainers().get(0);
+		assertThat(container.getImage()).isEqualTo("nginx:stable");
+		assertThat(container.getResources()).isEqualTo(new V1ResourceRequirements()
+				.putLimitsItem("memory", Quantity.fromString("64Mi"))
+				.putRequestsItem("cpu", Quantity.fromString("1")));
+		assertThat(podSpec.getVolumes().get(0).getConfigMap().getName()).isEqualTo("foo-content-abc");
+	}
+
+	@Test
+	void renderDeploymentReusesDeploymentWhileSpecAndConfigMapAreUnchanged() {
+		var first = renderer.renderDeployment(foo(new V1FooSpec().nickname("Spring").replicas(3)), "my-foo");
+
+		assertThat(renderer.renderDeployment(foo(new V1FooSpec().nickname("Spring").replicas(3)), "my-foo"))
+				.isSameAs(first);
+		var scaled = renderer.renderDeployment(foo(new V1FooSpec().nickname("Spring").replicas(4)), "my-foo");
+		assertThat(scaled).isNotSameAs(first);
+		assertThat(scaled.getSpec().getReplicas()).isEqualTo(4);
+		var moved = renderer.renderDeployment(foo(new V1FooSpec().nickname("Spring").replicas(4)), "foo-content-abc");
+		assertThat(moved).isNotSameAs(scaled);
+		assertThat(moved.getSpec().getTemplate().getSpec().getVolumes().get(0).getConfigMap().getName())
+				.isEqualTo("foo-content-abc");
+	}
+
+	@Test
+	void evictDropsCachedDeployment() {
+		var first = renderer.renderDeployment(foo(new V1FooSpec().nickname("Spring")), "my-foo");
+
+		renderer.evict("default", "my-foo");
+		assertThat(renderer.renderDeployment(foo(new V1FooSpec().nickname("Spring")), "my-foo"))
+				.isNotSameAs(first)
+				.isEqualTo(first);
+	}
+
+	@Test
+	void renderConfigMapContentGreetsNicknameUnlessContentIsSet() {
+		assertThat(renderer.renderConfigMapContent(new V1FooSpec().nickname("Spring")))
+				.containsEntry("index.html", "<h1> Hello, Spring </h1>");
+		assertThat(renderer.renderConfigMapContent(new V1FooSpec().nickname("Spring").content("<p>Hi</p>")))
+				.containsEntry("index.html", "<p>Hi</p>");
+	}
+
+	private static V1Foo foo(V1FooSpec spec) {
+		return new V1Foo()
+				.apiVersion("spring.io/v1")
+				.kind("Foo")
+				.metadata(new V1ObjectMeta().name("my-foo").namespace("default").uid("uid-1"))
+				.spec(spec);
+	}
+
+}
@@ -0,0 +1,59 @@
+package io.spring.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class TemplateTest {
+
+	@Test
+	void rendersVariablesInDeclaredOrder() {
+		var template = Template.compile("Hello, ${name} from ${namespace}!", "namespace", "name");
+
+		assertThat(template.render("default", "foo")).isEqualTo("Hello, foo from default!");
+	}
+
+	@Test
+	void rendersPlaceholdersAtStartAndEnd() {
+		var template = Template.compile("${name} is ${name}", "name");
+
+		assertThat(template.render("foo")).isEqualTo("foo is foo");
+	}
+
+	@Test
+	void rendersAdjacentPlaceholders() {
+		var template = Template.compile("${namespace}${name}", "name", "namespace");
+
+		assertThat(template.render("foo", "default")).isEqualTo("defaultfoo");
+	}
+
+	@Test
+	void rendersTemplateWithoutPlaceholders() {
+		var template = Template.compile("$ {name} costs $5", "name");
+
+		assertThat(template.render("foo")).isEqualTo("$ {name} costs $5");
+	}
+
+	@Test
+	void rendersEmptyValues() {
+		var template = Template.compile("<${name}>", "name");
+
+		assertThat(template.render("")).isEqualTo("<>");
+	}
+
+	@Test
+	void rejectsUnterminatedPlaceholder() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> Template.compile("Hello, ${name", "name"))
+				.withMessageContaining("Unterminated placeholder at index 7");
+	}
+
+	@Test
+	void rejectsUnknownVariable() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> Template.compile("Hello, ${nickname}", "name"))
+				.withMessageContaining("${nickname}");
+	}
+
+}
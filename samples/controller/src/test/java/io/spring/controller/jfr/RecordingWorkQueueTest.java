@@ -0,0 +1,82 @@
+package io.spring.controller.jfr;
+
+import io.kubernetes.client.extended.controller.reconciler.Request;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecordingWorkQueueTest {
+
+	private final RecordingWorkQueue queue = new RecordingWorkQueue();
+
+	private final Recording recording = new Recording();
+
+	@TempDir
+	Path tempDir;
+
+	@BeforeEach
+	void startRecording() {
+		recording.enable(QueueWaitEvent.class).withThreshold(Duration.ZERO);
+		recording.start();
+	}
+
+	@AfterEach
+	void shutDown() {
+		recording.close();
+		queue.shutDown();
+	}
+
+	@Test
+	void recordsWaitOfAddedRequest() throws Exception {
+		queue.add(new Request("default", "my-foo"));
+		queue.done(queue.get());
+
+		assertThat(queueWaitEvents()).singleElement()
+				.satisfies(event -> assertThat(event.getString("key")).isEqualTo("default/my-foo"));
+	}
+
+	@Test
+	void recordsWaitOfRequestRequeuedWithDelayWithoutTheDelay() throws Exception {
+		var delay = Duration.ofMillis(500);
+		queue.addAfter(new Request("default", "my-foo"), delay);
+		queue.done(queue.get());
+
+		assertThat(queueWaitEvents()).singleElement().satisfies(event -> {
+			assertThat(event.getString("key")).isEqualTo("default/my-foo");
+			assertThat(event.getDuration("waitTime")).isLessThan(delay);
+		});
+	}
+
+	@Test
+	void recordsWaitOfRateLimitedRequest() throws Exception {
+		var request = new Request("default", "my-foo");
+		queue.addRateLimited(request);
+		queue.done(queue.get());
+		queue.addRateLimited(request);
+		queue.done(queue.get());
+
+		assertThat(queueWaitEvents()).hasSize(2);
+		assertThat(queue.numRequeues(request)).isEqualTo(2);
+	}
+
+	private List<RecordedEvent> queueWaitEvents() throws IOException {
+		recording.stop();
+		var file = tempDir.resolve("queue-wait.jfr");
+		recording.dump(file);
+		return RecordingFile.readAllEvents(file).stream()
+				.filter(event -> event.getEventType().getName().equals("io.spring.controller.QueueWait"))
+				.toList();
+	}
+
+}
@@ -0,0 +1,182 @@
+package io.spring.controller.tracing;
+
+import com.google.gson.Gson;
+import io.kubernetes.client.extended.controller.reconciler.Request;
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.informer.cache.Cache;
+import io.kubernetes.client.openapi.apis.AppsV1Api;
+import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.spring.controller.FakeApiServer;
+import io.spring.controller.FooReconciler;
+import io.spring.controller.FooRenderer;
+import io.spring.controller.models.V1Foo;
+import io.spring.controller.models.V1FooSpec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FooTracingTest {
+
+	private final FakeApiServer apiServer = new FakeApiServer();
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void reconcileLinksToWatchEventAndParentsApiCalls() throws IOException {
+		var spans = trace(Sampler.alwaysOn(), (tracing, reconciler) -> {
+			tracing.watchEvent("ADDED", foo(new V1FooSpec().nickname("Spring")));
+			reconciler.reconcile(new Request("default", "my-foo"));
+		});
+
+		var watch = span(spans, "watch ADDED");
+		var reconcile = span(spans, "reconcile");
+		assertThat(watch.get("kind")).isEqualTo("PRODUCER");
+		assertThat(reconcile.get("traceId")).isNotEqualTo(watch.get("traceId"));
+		assertThat((List<Object>) reconcile.get("links"))
+				.containsExactly(Map.of("traceId", watch.get("traceId"), "spanId", watch.get("spanId")));
+		assertThat(attributes(reconcile)).containsEntry("foo.trigger", "watch").containsEntry("foo.outcome", "applied");
+
+		var apiCalls = spans.stream().filter(span -> "CLIENT".equals(span.get("kind"))).toList();
+		assertThat(apiCalls).extracting(span -> span.get("name"))
+				.containsExactly("get deployments", "list configmaps", "create configmaps", "create deployments");
+		assertThat(apiCalls).allSatisfy(span -> {
+			assertThat(span.get("traceId")).isEqualTo(reconcile.get("traceId"));
+			assertThat(span.get("parentSpanId")).isEqualTo(reconcile.get("spanId"));
+		});
+		assertThat(apiServer.requests()).extracting(request -> request.header("traceparent"))
+				.containsExactlyElementsOf(apiCalls.stream()
+						.map(span -> "00-" + span.get("traceId") + "-" + span.get("spanId") + "-01")
+						.toList());
+	}
+
+	@Test
+	void reconcileRecordsException() throws IOException {
+		var spans = trace(Sampler.alwaysOn(), (tracing, reconciler) -> assertThatExceptionOfType(NullPointerException.class)
+				.isThrownBy(() -> reconciler.reconcile(new Request("default", "my-foo"))), foo(null));
+
+		var reconcile = span(spans, "reconcile");
+		assertThat(reconcile.get("status")).isEqualTo("ERROR");
+		assertThat(attributes(reconcile)).containsEntry("foo.trigger", "requeue").containsEntry("foo.outcome", "error");
+	}
+
+	@Test
+	void resyncIsSampledSeparately() throws IOException {
+		var spans = trace(Sampler.parentBased(new ReconcileSampler(1.0, 0.0)), (tracing, reconciler) -> {
+			tracing.resync(foo(new V1FooSpec().nickname("Spring")));
+			reconciler.reconcile(new Request("default", "my-foo"));
+		});
+
+		assertThat(spans).isEmpty();
+		assertThat(apiServer.requests()).isNotEmpty().allSatisfy(request -> assertThat(request.header("traceparent")).endsWith("-00"));
+	}
+
+	@Test
+	void reconcileOfSampledWatchEventIsSampled() throws IOException {
+		var spans = trace(Sampler.parentBased(new ReconcileSampler(1.0, 0.0)), (tracing, reconciler) -> {
+			var foo = foo(new V1FooSpec().nickname("Spring"));
+			tracing.resync(foo);
+			tracing.watchEvent("MODIFIED", foo);
+			reconciler.reconcile(new Request("default", "my-foo"));
+		});
+
+		assertThat(attributes(span(spans, "reconcile"))).containsEntry("foo.trigger", "watch");
+	}
+
+	@Test
+	void apiCallSpanEndsWhenResponseBodyIsClosed() throws IOException {
+		var openTelemetry = openTelemetry(Sampler.alwaysOn());
+		var httpClient = apiServer.apiClient(new TracingInterceptor(openTelemetry)).getHttpClient();
+		var parent = openTelemetry.getTracer("test").spanBuilder("parent").startSpan();
+		try (var scope = parent.makeCurrent(); var response = httpClient.newCall(new okhttp3.Request.Builder()
+				.url("http://kubernetes.test/api/v1/namespaces/default/configmaps").build()).execute()) {
+			assertThat(spans()).isEmpty();
+			assertThat(response.body().string()).contains("items");
+			assertThat(spans()).extracting(span -> span.get("name")).containsExactly("list configmaps");
+		}
+		parent.end();
+		openTelemetry.close();
+
+		var apiCall = span(spans(), "list configmaps");
+		assertThat(apiCall.get("parentSpanId")).isEqualTo(span(spans(), "parent").get("spanId"));
+		assertThat(((Number) attributes(apiCall).get("http.response.body.size")).longValue()).isPositive();
+	}
+
+	private List<Map<String, Object>> trace(Sampler sampler, TracedReconcile tracedReconcile) throws IOException {
+		return trace(sampler, tracedReconcile, foo(new V1FooSpec().nickname("Spring")));
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Map<String, Object>> trace(Sampler sampler, TracedReconcile tracedReconcile, V1Foo cached)
+			throws IOException {
+		var openTelemetry = openTelemetry(sampler);
+		var apiClient = apiServer.apiClient(new TracingInterceptor(openTelemetry));
+		var cache = new Cache<V1Foo>();
+		cache.add(cached);
+		SharedIndexInformer<V1Foo> informer = mock(SharedIndexInformer.class);
+		when(informer.getIndexer()).thenReturn(cache);
+		var tracing = new FooTracing(openTelemetry);
+		var reconciler = new FooReconciler(informer, new CoreV1Api(apiClient), new AppsV1Api(apiClient),
+				new FooRenderer(), tracing, false);
+
+		tracedReconcile.run(tracing, reconciler);
+		openTelemetry.close();
+		return spans();
+	}
+
+	private OpenTelemetrySdk openTelemetry(Sampler sampler) throws IOException {
+		return OpenTelemetrySdk.builder()
+				.setTracerProvider(SdkTracerProvider.builder()
+						.setSampler(sampler)
+						.addSpanProcessor(SimpleSpanProcessor.create(new FileSpanExporter(tempDir.resolve("spans.jsonl"))))
+						.build())
+				.setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
+				.build();
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Map<String, Object>> spans() throws IOException {
+		var gson = new Gson();
+		return Files.readAllLines(tempDir.resolve("spans.jsonl")).stream()
+				.map(line -> (Map<String, Object>) gson.fromJson(line, Map.class))
+				.toList();
+	}
+
+	private static Map<String, Object> span(List<Map<String, Object>> spans, String name) {
+		return spans.stream().filter(span -> name.equals(span.get("name"))).findFirst().orElseThrow();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> attributes(Map<String, Object> span) {
+		return (Map<String, Object>) span.get("attributes");
+	}
+
+	private static V1Foo foo(V1FooSpec spec) {
+		return new V1Foo()
+				.metadata(new V1ObjectMeta().namespace("default").name("my-foo").uid("0000-1111").resourceVersion("1"))
+				.spec(spec);
+	}
+
+	private interface TracedReconcile {
+
+		void run(FooTracing tracing, FooReconciler reconciler);
+	}
+}